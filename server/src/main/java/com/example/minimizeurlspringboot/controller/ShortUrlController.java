@@ -4,10 +4,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.example.minimizeurlspringboot.dto.ShortUrlDetails;
 import com.example.minimizeurlspringboot.dto.ShortUrlRequest;
 import com.example.minimizeurlspringboot.dto.ShortUrlResponse;
 import com.example.minimizeurlspringboot.models.ShortUrl;
 import com.example.minimizeurlspringboot.models.User;
+import com.example.minimizeurlspringboot.service.QrCodeService;
 import com.example.minimizeurlspringboot.service.ShortUrlService;
 
 import jakarta.servlet.http.HttpServletResponse;
@@ -18,30 +20,47 @@ import org.springframework.web.bind.annotation.RequestBody;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
-// Purpose: REST API endpoints for creating and redirecting short URLs
+// Purpose: REST API endpoints for creating, redirecting and rendering QR codes for short URLs
 
 @RestController
 @RequestMapping("/url")
 public class ShortUrlController {
+    private static final String SHORT_URL_BASE = "http://localhost:8080/";
+
+    // Private because the endpoint needs a JWT, so shared caches must not serve it to anonymous requests.
+    // Kept short and not immutable, so clients revalidate with If-None-Match and pick up a new ETag when the
+    // short URL base or renderer changes
+    private static final CacheControl QR_CACHE_CONTROL = CacheControl.maxAge(1, TimeUnit.DAYS)
+            .cachePrivate();
+
     private final ShortUrlService shortUrlService;
+    private final QrCodeService qrCodeService;
 
-    public ShortUrlController(ShortUrlService shortUrlService) {
+    public ShortUrlController(ShortUrlService shortUrlService, QrCodeService qrCodeService) {
         this.shortUrlService = shortUrlService;
+        this.qrCodeService = qrCodeService;
     }
 
     @PostMapping("/shorten")
     public ShortUrlResponse createShortUrl(@RequestBody ShortUrlRequest request) {
         ShortUrl shortUrl = shortUrlService.createShortUrl(request.getOriginalUrl());
 
-        return new ShortUrlResponse(shortUrl.getOriginalUrl(), "http://localhost:8080/" + shortUrl.getShortCode());
+        return new ShortUrlResponse(request.getOriginalUrl(), SHORT_URL_BASE + shortUrl.getShortCode());
     }
 
     @GetMapping("/list")
@@ -54,7 +73,15 @@ public class ShortUrlController {
         User userDetails = (User) authentication.getPrincipal();
         Long userId = userDetails.getId();
 
-        List<ShortUrl> urls = shortUrlService.getUrlsByUser(userId);
+        List<ShortUrlDetails> urls = shortUrlService.getUrlsByUser(userId).stream()
+                .map(url -> new ShortUrlDetails(
+                        url.getId(),
+                        shortUrlService.resolveOriginalUrl(url),
+                        url.getShortCode(),
+                        url.getCreatedAt(),
+                        url.getAccessCount(),
+                        url.getDefaultAccessCount()))
+                .toList();
         return ResponseEntity.ok(Map.of("urls", urls));
     }
 
@@ -66,7 +93,54 @@ public class ShortUrlController {
         ShortUrl shortUrl = shortUrlService.getOriginalUrl(shortCode);
         shortUrlService.incrementAccessCount(shortUrl);
 
-        response.sendRedirect(shortUrl.getOriginalUrl());
+        response.sendRedirect(shortUrlService.resolveOriginalUrl(shortUrl));
+    }
+
+    // Returns a future so the request thread is released while the image renders on the QR pool
+    @GetMapping("/{shortCode}/qr")
+    public CompletableFuture<ResponseEntity<byte[]>> qrCode(
+            @PathVariable String shortCode,
+            @RequestParam(defaultValue = "png") String format,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "M") String ecc,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        QrCodeService.Key key = qrCodeService.key(shortCode, format, size, ecc);
+        qrCodeService.requireExists(shortCode);
+        String shortUrl = SHORT_URL_BASE + shortCode;
+        String etag = qrCodeService.etag(key, shortUrl);
+
+        if (matchesEtag(ifNoneMatch, etag)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(QR_CACHE_CONTROL)
+                    .build());
+        }
+
+        return qrCodeService.render(key, shortUrl)
+                .thenApply(image -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType(image.getContentType()))
+                        .eTag(image.getEtag())
+                        .cacheControl(QR_CACHE_CONTROL)
+                        .body(image.getBytes()));
+    }
+
+    // If-None-Match uses weak comparison, so W/ prefixes are ignored
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 
 }
@@ -0,0 +1,12 @@
+package com.example.minimizeurlspringboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class QrCodeImage {
+    private String contentType;
+    private String etag;
+    private byte[] bytes;
+}
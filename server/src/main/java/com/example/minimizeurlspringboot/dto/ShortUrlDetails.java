@@ -0,0 +1,20 @@
+package com.example.minimizeurlspringboot.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ShortUrlDetails {
+    private Long id;
+    private String originalUrl;
+    private String shortCode;
+    private LocalDateTime createdAt;
+
+    @com.fasterxml.jackson.annotation.JsonProperty("click_count")
+    private Long accessCount;
+
+    private Long defaultAccessCount;
+}
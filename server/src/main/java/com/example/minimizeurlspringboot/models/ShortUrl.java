@@ -29,8 +29,20 @@ public class ShortUrl {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, length = 2048)
-    private String originalUrl;
+    // Plain storage; null when the URL is kept as a prefix reference plus suffix
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    @Column(name = "original_url", length = 2048)
+    private String storedUrl;
+
+    // Compact storage: id into url_prefixes (cached in memory, so no join)
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    @Column(name = "url_prefix_id")
+    private Long urlPrefixId;
+
+    // Compact storage: flag byte followed by the raw or deflated remainder of the URL
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    @Column(name = "url_suffix", length = 8192)
+    private byte[] urlSuffix;
 
     @Column(nullable = false, unique = true)
     private String shortCode;
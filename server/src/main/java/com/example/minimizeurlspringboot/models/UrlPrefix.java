@@ -0,0 +1,30 @@
+package com.example.minimizeurlspringboot.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Purpose: Deduplicated scheme/host/path prefix shared by compactly stored short URLs
+
+@Entity
+@Table(name = "url_prefixes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UrlPrefix {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 2048)
+    private String prefix;
+}
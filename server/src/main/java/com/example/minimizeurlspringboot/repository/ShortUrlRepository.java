@@ -10,5 +10,7 @@ import com.example.minimizeurlspringboot.models.ShortUrl;
 public interface ShortUrlRepository extends JpaRepository<ShortUrl, Long> {
     Optional<ShortUrl> findByShortCode(String shortCode);
 
+    boolean existsByShortCode(String shortCode);
+
     List<ShortUrl> findByUserId(Long userId);
 }
@@ -0,0 +1,11 @@
+package com.example.minimizeurlspringboot.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.minimizeurlspringboot.models.UrlPrefix;
+
+public interface UrlPrefixRepository extends JpaRepository<UrlPrefix, Long> {
+    Optional<UrlPrefix> findByPrefix(String prefix);
+}
@@ -0,0 +1,319 @@
+package com.example.minimizeurlspringboot.service;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.minimizeurlspringboot.dto.QrCodeImage;
+import com.example.minimizeurlspringboot.repository.ShortUrlRepository;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+
+import jakarta.annotation.PreDestroy;
+
+// Purpose: Renders short URLs as PNG/SVG QR codes on a bounded pool, with a byte-bounded image cache
+
+@Service
+public class QrCodeService {
+
+    // Part of every ETag: bump when the rendered output changes, so the next revalidation after a
+    // response's max-age expires gets the new image instead of a 304
+    private static final String RENDER_VERSION = "v1";
+
+    private static final int MIN_SIZE = 64;
+    private static final int QUIET_ZONE = 4;
+
+    // Rough per-entry overhead (key, map node, DTO) counted against the cache budget
+    private static final int ENTRY_OVERHEAD = 256;
+
+    public record Key(String shortCode, String format, int size, ErrorCorrectionLevel ecc) {
+    }
+
+    private final ShortUrlRepository shortUrlRepository;
+    private final ThreadPoolExecutor renderPool;
+    private final long maxCacheBytes;
+    private final int defaultSize;
+    private final int maxSize;
+    private final int maxKnownCodes;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Key, QrCodeImage> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cacheBytes;
+
+    // Codes confirmed to exist; short URLs are never deleted, so a hit needs no query
+    private final LinkedHashMap<String, Boolean> knownCodes = new LinkedHashMap<>(64, 0.75f, true);
+
+    // Concurrent requests for the same image share one render instead of queueing duplicates
+    private final Map<Key, CompletableFuture<QrCodeImage>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public QrCodeService(
+            ShortUrlRepository shortUrlRepository,
+            @Value("${qr.render.threads:2}") int renderThreads,
+            @Value("${qr.render.queue-capacity:32}") int queueCapacity,
+            @Value("${qr.cache.max-bytes:16777216}") long maxCacheBytes,
+            @Value("${qr.size.default:256}") int defaultSize,
+            @Value("${qr.size.max:1024}") int maxSize,
+            @Value("${qr.known-codes.max:10000}") int maxKnownCodes) {
+        this(shortUrlRepository, renderPool(renderThreads, queueCapacity),
+                maxCacheBytes, defaultSize, maxSize, maxKnownCodes);
+    }
+
+    QrCodeService(
+            ShortUrlRepository shortUrlRepository,
+            ThreadPoolExecutor renderPool,
+            long maxCacheBytes,
+            int defaultSize,
+            int maxSize,
+            int maxKnownCodes) {
+        this.shortUrlRepository = shortUrlRepository;
+        this.renderPool = renderPool;
+        this.maxCacheBytes = maxCacheBytes;
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+        this.maxKnownCodes = maxKnownCodes;
+    }
+
+    // Fixed size with a bounded queue and no caller-runs fallback: a print burst gets 503s. Callers
+    // receive a future, so no request thread waits on a render either way
+    private static ThreadPoolExecutor renderPool(int threads, int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "qr-render-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public Key key(String shortCode, String format, Integer size, String ecc) {
+        // Generated codes are UUID fragments; anything else can't exist and mustn't reach the ETag
+        if (!shortCode.matches("[A-Za-z0-9_-]+")) {
+            throw notFound();
+        }
+
+        String normalizedFormat = format.toLowerCase();
+        if (!normalizedFormat.equals("png") && !normalizedFormat.equals("svg")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Format must be png or svg");
+        }
+
+        int resolvedSize = size == null ? defaultSize : size;
+        if (resolvedSize < MIN_SIZE || resolvedSize > maxSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Size must be between " + MIN_SIZE + " and " + maxSize);
+        }
+
+        ErrorCorrectionLevel level;
+        try {
+            level = ErrorCorrectionLevel.valueOf(ecc.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Error correction must be L, M, Q or H");
+        }
+
+        return new Key(shortCode, normalizedFormat, resolvedSize, level);
+    }
+
+    // Derived from the key and the encoded URL, not the image bytes, so conditional requests are answered
+    // without rendering; a changed short URL base or renderer version yields a new tag
+    public String etag(Key key, String shortUrl) {
+        return "\"qr-" + RENDER_VERSION + "-" + key.shortCode() + "-" + key.format() + "-"
+                + key.size() + "-" + key.ecc() + "-" + Integer.toHexString(shortUrl.hashCode()) + "\"";
+    }
+
+    public void requireExists(String shortCode) {
+        synchronized (knownCodes) {
+            if (knownCodes.get(shortCode) != null) {
+                return;
+            }
+        }
+
+        if (!shortUrlRepository.existsByShortCode(shortCode)) {
+            throw notFound();
+        }
+
+        synchronized (knownCodes) {
+            knownCodes.put(shortCode, Boolean.TRUE);
+            if (knownCodes.size() > maxKnownCodes) {
+                Iterator<String> eldest = knownCodes.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    public CompletableFuture<QrCodeImage> render(Key key, String shortUrl) {
+        QrCodeImage cached = getCached(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<QrCodeImage> future = new CompletableFuture<>();
+        CompletableFuture<QrCodeImage> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+
+        // A render may have finished between the cache check and claiming the key
+        cached = getCached(key);
+        if (cached != null) {
+            inFlight.remove(key, future);
+            future.complete(cached);
+            return future;
+        }
+
+        submit(key, shortUrl, future);
+        return future;
+    }
+
+    private void submit(Key key, String shortUrl, CompletableFuture<QrCodeImage> future) {
+        try {
+            renderPool.execute(() -> {
+                try {
+                    QrCodeImage image = draw(key, shortUrl);
+                    putCached(key, image);
+                    future.complete(image);
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(
+                    new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "QR renderer is busy, retry later"));
+        }
+    }
+
+    private QrCodeImage draw(Key key, String shortUrl) {
+        Map<EncodeHintType, Object> hints = Map.of(
+                EncodeHintType.ERROR_CORRECTION, key.ecc(),
+                EncodeHintType.CHARACTER_SET, StandardCharsets.UTF_8.name(),
+                EncodeHintType.MARGIN, QUIET_ZONE);
+
+        try {
+            if (key.format().equals("svg")) {
+                // One unit per module; the SVG viewer scales it to the requested size
+                BitMatrix modules = new QRCodeWriter().encode(shortUrl, BarcodeFormat.QR_CODE, 0, 0, hints);
+                return new QrCodeImage("image/svg+xml", etag(key, shortUrl), toSvg(modules, key.size()));
+            }
+
+            BitMatrix pixels = new QRCodeWriter().encode(shortUrl, BarcodeFormat.QR_CODE, key.size(), key.size(), hints);
+            return new QrCodeImage("image/png", etag(key, shortUrl), toPng(pixels));
+        } catch (WriterException e) {
+            throw new RuntimeException("QR encoding failed", e);
+        }
+    }
+
+    private static byte[] toPng(BitMatrix matrix) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, matrix.get(x, y) ? 0xFF000000 : 0xFFFFFFFF);
+            }
+        }
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Each horizontal run of dark modules becomes one path segment
+    private static byte[] toSvg(BitMatrix matrix, int size) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+
+        StringBuilder path = new StringBuilder();
+        for (int y = 0; y < height; y++) {
+            int x = 0;
+            while (x < width) {
+                if (!matrix.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < width && matrix.get(x, y)) {
+                    x++;
+                }
+                path.append('M').append(start).append(',').append(y)
+                        .append('h').append(x - start).append("v1h-").append(x - start).append('z');
+            }
+        }
+
+        String svg = "<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + size + "\" height=\"" + size
+                + "\" viewBox=\"0 0 " + width + " " + height + "\" shape-rendering=\"crispEdges\">"
+                + "<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/>"
+                + "<path fill=\"#000\" d=\"" + path + "\"/></svg>";
+        return svg.getBytes(StandardCharsets.UTF_8);
+    }
+
+    synchronized QrCodeImage getCached(Key key) {
+        return cache.get(key);
+    }
+
+    private synchronized void putCached(Key key, QrCodeImage image) {
+        long weight = weight(image);
+        if (weight > maxCacheBytes) {
+            return;
+        }
+
+        QrCodeImage previous = cache.put(key, image);
+        if (previous != null) {
+            cacheBytes -= weight(previous);
+        }
+        cacheBytes += weight;
+
+        Iterator<QrCodeImage> eldest = cache.values().iterator();
+        while (cacheBytes > maxCacheBytes && eldest.hasNext()) {
+            cacheBytes -= weight(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    private static ResponseStatusException notFound() {
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Short URL not found");
+    }
+
+    private static long weight(QrCodeImage image) {
+        return (long) image.getBytes().length + ENTRY_OVERHEAD;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        renderPool.shutdownNow();
+    }
+}
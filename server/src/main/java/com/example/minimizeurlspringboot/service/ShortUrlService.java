@@ -8,8 +8,10 @@ import java.util.UUID;
 // import java.time.LocalDateTime;
 // import java.time.format.DateTimeFormatter;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.example.minimizeurlspringboot.models.ShortUrl;
 import com.example.minimizeurlspringboot.models.User;
@@ -21,17 +23,23 @@ import com.example.minimizeurlspringboot.repository.ShortUrlRepository;
 public class ShortUrlService {
 
     private final ShortUrlRepository shortUrlRepository;
+    private final UrlStorageCodec urlStorageCodec;
 
-    public ShortUrlService(ShortUrlRepository shortUrlRepository) {
+    public ShortUrlService(ShortUrlRepository shortUrlRepository, UrlStorageCodec urlStorageCodec) {
         this.shortUrlRepository = shortUrlRepository;
+        this.urlStorageCodec = urlStorageCodec;
     }
 
     // Core logic: generate + save short URL
     public ShortUrl createShortUrl(String originalUrl) {
+        if (originalUrl == null || originalUrl.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Original URL is required");
+        }
+
         String shortCode = generateShortCode();
 
         ShortUrl shortUrl = new ShortUrl();
-        shortUrl.setOriginalUrl(originalUrl);
+        urlStorageCodec.encode(shortUrl, originalUrl);
         shortUrl.setShortCode(shortCode);
         shortUrl.setAccessCount(0L);
 
@@ -66,6 +74,11 @@ public class ShortUrlService {
     return shortUrlRepository.findByUserId(userId);
 }
 
+    // Decoded on demand so entities never hold both the stored and decoded forms
+    public String resolveOriginalUrl(ShortUrl shortUrl) {
+        return urlStorageCodec.decode(shortUrl);
+    }
+
 
     public void incrementAccessCount(ShortUrl shortUrl) {
         shortUrl.setAccessCount(shortUrl.getAccessCount() + 1);
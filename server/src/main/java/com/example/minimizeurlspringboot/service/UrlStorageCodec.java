@@ -0,0 +1,210 @@
+package com.example.minimizeurlspringboot.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.minimizeurlspringboot.models.ShortUrl;
+import com.example.minimizeurlspringboot.models.UrlPrefix;
+import com.example.minimizeurlspringboot.repository.UrlPrefixRepository;
+
+// Purpose: Encodes original URLs into plain or compact (prefix dictionary + compressed suffix) storage
+
+@Component
+public class UrlStorageCodec {
+
+    // Suffix format flags, stored as the first byte of every compact row
+    private static final byte RAW = 0;
+    private static final byte DEFLATED = 1;
+
+    // Preset deflate dictionary: path words, file endings and tracking parameters common in suffixes.
+    // Stored DEFLATED suffixes can only be inflated with exactly these bytes, so this must never change:
+    // editing it makes every existing compact row fail to decode. A better dictionary needs a new flag
+    // value (e.g. DEFLATED_V2) for new rows, with this one kept for decoding the old ones.
+    private static final byte[] SUFFIX_DICTIONARY = (
+            "/products/item/p/dp//category//search?q=/news/2026/blog/article/post/posts/"
+                    + "/watch?v=/video/status/docs/en/en-us/index.html.php.aspx?id=&page=&ref=&source=&lang=en"
+                    + "&fbclid=&gclid=&mc_cid=&mc_eid="
+                    + "&utm_id=&utm_term=&utm_content=&utm_campaign=&utm_medium=email&utm_medium=social"
+                    + "&utm_medium=cpc&utm_source=newsletter&utm_source=facebook&utm_source=google")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final UrlPrefixRepository urlPrefixRepository;
+    private final boolean compact;
+
+    // Prefix dictionary cache, bounded so rarely used hosts fall back to a primary-key lookup;
+    // entries are immutable once written, so it never needs invalidation
+    private final Map<Long, String> prefixesById;
+    private final Map<String, Long> idsByPrefix;
+
+    public UrlStorageCodec(
+            UrlPrefixRepository urlPrefixRepository,
+            @Value("${url.storage.compact:false}") boolean compact,
+            @Value("${url.storage.prefix-cache-size:10000}") int prefixCacheSize) {
+        this.urlPrefixRepository = urlPrefixRepository;
+        this.compact = compact;
+        this.prefixesById = lruMap(prefixCacheSize);
+        this.idsByPrefix = lruMap(prefixCacheSize);
+    }
+
+    public void encode(ShortUrl shortUrl, String originalUrl) {
+        if (originalUrl == null || originalUrl.isBlank()) {
+            throw new IllegalArgumentException("Original URL is required");
+        }
+
+        if (!compact) {
+            shortUrl.setStoredUrl(originalUrl);
+            return;
+        }
+
+        int split = prefixLength(originalUrl);
+        shortUrl.setUrlPrefixId(prefixId(originalUrl.substring(0, split)));
+        shortUrl.setUrlSuffix(compress(originalUrl.substring(split)));
+    }
+
+    // Rows written in either format stay readable, whatever the current setting. The result is not kept
+    // on the entity, so a loaded compact row holds only its prefix id and suffix
+    public String decode(ShortUrl shortUrl) {
+        if (shortUrl.getStoredUrl() != null) {
+            return shortUrl.getStoredUrl();
+        }
+        if (shortUrl.getUrlPrefixId() != null && shortUrl.getUrlSuffix() != null) {
+            return prefix(shortUrl.getUrlPrefixId()) + decompress(shortUrl.getUrlSuffix());
+        }
+        throw new IllegalStateException("Short URL " + shortUrl.getShortCode() + " has no stored URL");
+    }
+
+    // Prefix is scheme + authority only: the host set stays small and shared, while the path,
+    // which is mostly unique per link, goes to the compressed suffix
+    static int prefixLength(String url) {
+        int end = url.length();
+        int query = url.indexOf('?');
+        if (query >= 0) {
+            end = query;
+        }
+        int fragment = url.indexOf('#');
+        if (fragment >= 0 && fragment < end) {
+            end = fragment;
+        }
+
+        int scheme = url.indexOf("://");
+        if (scheme < 0 || scheme >= end) {
+            return 0;
+        }
+
+        int pathStart = url.indexOf('/', scheme + 3);
+        return pathStart < 0 || pathStart >= end ? end : pathStart;
+    }
+
+    private Long prefixId(String prefix) {
+        Long id = idsByPrefix.get(prefix);
+        if (id != null) {
+            return id;
+        }
+        return createPrefix(prefix);
+    }
+
+    // Serialised so two requests sharing a new prefix don't both insert it
+    private synchronized Long createPrefix(String prefix) {
+        Long id = idsByPrefix.get(prefix);
+        if (id != null) {
+            return id;
+        }
+
+        UrlPrefix urlPrefix = urlPrefixRepository.findByPrefix(prefix)
+                .orElseGet(() -> urlPrefixRepository.save(UrlPrefix.builder().prefix(prefix).build()));
+
+        prefixesById.put(urlPrefix.getId(), prefix);
+        idsByPrefix.put(prefix, urlPrefix.getId());
+        return urlPrefix.getId();
+    }
+
+    private String prefix(Long id) {
+        String prefix = prefixesById.get(id);
+        if (prefix != null) {
+            return prefix;
+        }
+
+        UrlPrefix urlPrefix = urlPrefixRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("URL prefix not found"));
+
+        prefixesById.put(id, urlPrefix.getPrefix());
+        idsByPrefix.put(urlPrefix.getPrefix(), id);
+        return urlPrefix.getPrefix();
+    }
+
+    // Short suffixes often grow under deflate, so keep whichever form is smaller
+    private static byte[] compress(String suffix) {
+        byte[] raw = suffix.getBytes(StandardCharsets.UTF_8);
+
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setDictionary(SUFFIX_DICTIONARY);
+            deflater.setInput(raw);
+            deflater.finish();
+
+            byte[] buffer = new byte[raw.length + 1];
+            int length = 1;
+            while (!deflater.finished() && length < buffer.length) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+
+            if (deflater.finished() && length <= raw.length) {
+                buffer[0] = DEFLATED;
+                return Arrays.copyOf(buffer, length);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        byte[] stored = new byte[raw.length + 1];
+        stored[0] = RAW;
+        System.arraycopy(raw, 0, stored, 1, raw.length);
+        return stored;
+    }
+
+    private static <K, V> Map<K, V> lruMap(int maxEntries) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    private static String decompress(byte[] stored) {
+        if (stored[0] == RAW) {
+            return new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+        }
+
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setDictionary(SUFFIX_DICTIONARY);
+            inflater.setInput(stored, 1, stored.length - 1);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(stored.length * 3);
+            byte[] buffer = new byte[512];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new RuntimeException("Corrupt URL suffix");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new RuntimeException("Corrupt URL suffix", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.minimizeurlspringboot.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.minimizeurlspringboot.models.ShortUrl;
+import com.example.minimizeurlspringboot.models.User;
+import com.example.minimizeurlspringboot.repository.ShortUrlRepository;
+import com.example.minimizeurlspringboot.repository.UserRepository;
+import com.example.minimizeurlspringboot.security.JwtUtil;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:controller-test;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.security=INFO"
+})
+@AutoConfigureMockMvc
+class ShortUrlControllerQrTest {
+
+    private static final String CODE = "abc12345";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShortUrlRepository shortUrlRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        shortUrlRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = userRepository.save(User.builder()
+                .username("qr-user")
+                .email("qr@example.com")
+                .password("secret")
+                .build());
+
+        shortUrlRepository.save(ShortUrl.builder()
+                .storedUrl("https://example.com/some/page")
+                .shortCode(CODE)
+                .accessCount(0L)
+                .user(user)
+                .build());
+
+        token = jwtUtil.generateToken(user.getUsername());
+    }
+
+    @Test
+    void rendersPng() throws Exception {
+        MvcResult result = perform(get("/url/" + CODE + "/qr"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=86400, private"))
+                .andReturn();
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        assertThat(body).startsWith(0x89, 'P', 'N', 'G');
+    }
+
+    @Test
+    void rendersSvg() throws Exception {
+        MvcResult result = perform(get("/url/" + CODE + "/qr").param("format", "svg").param("size", "300"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/svg+xml"))
+                .andReturn();
+
+        String body = new String(result.getResponse().getContentAsByteArray(), StandardCharsets.UTF_8);
+        assertThat(body).startsWith("<svg").contains("width=\"300\"");
+    }
+
+    @Test
+    void returnsNotModifiedWhenEtagMatches() throws Exception {
+        String etag = perform(get("/url/" + CODE + "/qr").param("ecc", "h"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        perform(get("/url/" + CODE + "/qr").param("ecc", "h").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(new byte[0]));
+
+        perform(get("/url/" + CODE + "/qr").param("ecc", "L").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void rejectsBadParameters() throws Exception {
+        perform(get("/url/" + CODE + "/qr").param("size", "10")).andExpect(status().isBadRequest());
+        perform(get("/url/" + CODE + "/qr").param("size", "100000")).andExpect(status().isBadRequest());
+        perform(get("/url/" + CODE + "/qr").param("ecc", "X")).andExpect(status().isBadRequest());
+        perform(get("/url/" + CODE + "/qr").param("format", "gif")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void returnsNotFoundForUnknownCodesEvenWithMatchingEtag() throws Exception {
+        perform(get("/url/deadbeef/qr")).andExpect(status().isNotFound());
+        perform(get("/url/not\"valid/qr")).andExpect(status().isNotFound());
+        perform(get("/url/deadbeef/qr").header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void otherEndpointsKeepNoCacheHeaders() throws Exception {
+        perform(get("/url/list"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, max-age=0, must-revalidate"));
+    }
+
+    @Test
+    void requiresAuthentication() throws Exception {
+        mockMvc.perform(get("/url/" + CODE + "/qr")).andExpect(status().is4xxClientError());
+    }
+
+    // Renders complete asynchronously, so follow the async dispatch when one was started
+    private ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+        MvcResult result = actions.andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result.getAsyncResult();
+            return mockMvc.perform(asyncDispatch(result));
+        }
+        return actions;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.minimizeurlspringboot.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.minimizeurlspringboot.models.ShortUrl;
+import com.example.minimizeurlspringboot.models.UrlPrefix;
+import com.example.minimizeurlspringboot.models.User;
+import com.example.minimizeurlspringboot.repository.ShortUrlRepository;
+import com.example.minimizeurlspringboot.repository.UrlPrefixRepository;
+import com.example.minimizeurlspringboot.repository.UserRepository;
+import com.example.minimizeurlspringboot.security.JwtUtil;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:controller-test;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.springframework.security=INFO"
+})
+@AutoConfigureMockMvc
+class ShortUrlControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShortUrlRepository shortUrlRepository;
+
+    @Autowired
+    private UrlPrefixRepository urlPrefixRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        shortUrlRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = userRepository.save(User.builder()
+                .username("list-user")
+                .email("list@example.com")
+                .password("secret")
+                .build());
+
+        UrlPrefix prefix = urlPrefixRepository.findByPrefix("https://compact.example")
+                .orElseGet(() -> urlPrefixRepository.save(UrlPrefix.builder().prefix("https://compact.example").build()));
+
+        shortUrlRepository.save(ShortUrl.builder()
+                .storedUrl("https://plain.example/page")
+                .shortCode("plain001")
+                .accessCount(3L)
+                .user(user)
+                .build());
+
+        // Raw-flagged suffix, so the row decodes the same whatever the storage setting
+        byte[] suffix = "\0/docs?x=1".getBytes(StandardCharsets.UTF_8);
+        shortUrlRepository.save(ShortUrl.builder()
+                .urlPrefixId(prefix.getId())
+                .urlSuffix(suffix)
+                .shortCode("compact1")
+                .accessCount(0L)
+                .user(user)
+                .build());
+
+        token = jwtUtil.generateToken(user.getUsername());
+    }
+
+    @Test
+    void listsDecodedUrlsForBothStorageFormats() throws Exception {
+        mockMvc.perform(get("/url/list").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.urls[?(@.short_code == 'plain001')].original_url")
+                        .value("https://plain.example/page"))
+                .andExpect(jsonPath("$.urls[?(@.short_code == 'plain001')].click_count").value(3))
+                .andExpect(jsonPath("$.urls[?(@.short_code == 'compact1')].original_url")
+                        .value("https://compact.example/docs?x=1"))
+                .andExpect(jsonPath("$.urls[0].created_at").exists())
+                .andExpect(jsonPath("$.urls[0].stored_url").doesNotExist())
+                .andExpect(jsonPath("$.urls[0].url_suffix").doesNotExist());
+    }
+
+    @Test
+    void redirectsToTheDecodedUrl() throws Exception {
+        mockMvc.perform(get("/url/compact1").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isFound())
+                .andExpect(redirectedUrl("https://compact.example/docs?x=1"));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.minimizeurlspringboot.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Optional;
+
+import com.example.minimizeurlspringboot.models.UrlPrefix;
+import com.example.minimizeurlspringboot.repository.UrlPrefixRepository;
+
+// Purpose: Mock UrlPrefixRepository backed by a map, so prefix ids behave like generated keys in tests
+
+final class InMemoryUrlPrefixRepository {
+
+    private InMemoryUrlPrefixRepository() {
+    }
+
+    static UrlPrefixRepository create(Map<Long, UrlPrefix> rows) {
+        UrlPrefixRepository repository = mock(UrlPrefixRepository.class);
+
+        when(repository.findByPrefix(anyString())).thenAnswer(invocation -> rows.values().stream()
+                .filter(row -> row.getPrefix().equals(invocation.getArgument(0)))
+                .findFirst());
+        when(repository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(rows.get(invocation.<Long>getArgument(0))));
+        when(repository.save(any(UrlPrefix.class))).thenAnswer(invocation -> {
+            UrlPrefix row = invocation.getArgument(0);
+            row.setId(rows.size() + 1L);
+            rows.put(row.getId(), row);
+            return row;
+        });
+        return repository;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.minimizeurlspringboot.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.minimizeurlspringboot.dto.QrCodeImage;
+import com.example.minimizeurlspringboot.repository.ShortUrlRepository;
+
+class QrCodeServiceTest {
+
+    private final ShortUrlRepository shortUrlRepository = mock(ShortUrlRepository.class);
+
+    private final ThreadPoolExecutor renderPool = new ThreadPoolExecutor(
+            1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+
+    @AfterEach
+    void tearDown() {
+        renderPool.shutdownNow();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedImagesOverTheByteBudget() throws Exception {
+        QrCodeService service = service(Long.MAX_VALUE);
+        int imageWeight = render(service, service.key("aaaa", "png", 256, "M")).getBytes().length + 256;
+
+        // Room for two images of this size, not three
+        service = service(imageWeight * 2L + imageWeight / 2);
+        QrCodeService.Key first = service.key("aaaa", "png", 256, "M");
+        QrCodeService.Key second = service.key("aaaa", "png", 256, "L");
+        QrCodeService.Key third = service.key("aaaa", "png", 256, "Q");
+
+        render(service, first);
+        render(service, second);
+        service.getCached(first);
+        render(service, third);
+
+        assertNotNull(service.getCached(first));
+        assertNull(service.getCached(second));
+        assertNotNull(service.getCached(third));
+    }
+
+    @Test
+    void servesRepeatRendersFromTheCache() throws Exception {
+        QrCodeService service = service(Long.MAX_VALUE);
+        QrCodeService.Key key = service.key("aaaa", "svg", 256, "M");
+
+        assertSame(render(service, key), render(service, key));
+    }
+
+    @Test
+    void rejectsWithServiceUnavailableWhenTheQueueIsFull() throws Exception {
+        QrCodeService service = service(Long.MAX_VALUE);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // One task occupies the only thread, the next fills the one-slot queue
+            renderPool.execute(() -> await(release));
+            renderPool.execute(() -> await(release));
+
+            CompletableFuture<QrCodeImage> rejected = service.render(service.key("aaaa", "png", 256, "M"), "x");
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ((ResponseStatusException) e.getCause()).getStatusCode());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void validatesParameters() {
+        QrCodeService service = service(Long.MAX_VALUE);
+
+        assertStatus(HttpStatus.BAD_REQUEST, () -> service.key("aaaa", "gif", 256, "M"));
+        assertStatus(HttpStatus.BAD_REQUEST, () -> service.key("aaaa", "png", 32, "M"));
+        assertStatus(HttpStatus.BAD_REQUEST, () -> service.key("aaaa", "png", 4096, "M"));
+        assertStatus(HttpStatus.BAD_REQUEST, () -> service.key("aaaa", "png", 256, "Z"));
+        assertStatus(HttpStatus.NOT_FOUND, () -> service.key("a\"b", "png", 256, "M"));
+        assertEquals(256, service.key("aaaa", "PNG", null, "m").size());
+    }
+
+    @Test
+    void etagChangesWithTheEncodedUrl() {
+        QrCodeService service = service(Long.MAX_VALUE);
+        QrCodeService.Key key = service.key("aaaa", "png", 256, "M");
+
+        String etag = service.etag(key, "http://localhost:8080/aaaa");
+
+        assertEquals(etag, service.etag(key, "http://localhost:8080/aaaa"));
+        assertNotEquals(etag, service.etag(key, "https://sho.rt/aaaa"));
+        assertNotEquals(etag, service.etag(service.key("aaaa", "png", 256, "H"), "http://localhost:8080/aaaa"));
+    }
+
+    @Test
+    void remembersExistingCodes() {
+        QrCodeService service = service(Long.MAX_VALUE);
+        when(shortUrlRepository.existsByShortCode("aaaa")).thenReturn(true);
+
+        service.requireExists("aaaa");
+        service.requireExists("aaaa");
+        assertStatus(HttpStatus.NOT_FOUND, () -> service.requireExists("bbbb"));
+
+        verify(shortUrlRepository, times(1)).existsByShortCode("aaaa");
+    }
+
+    private QrCodeService service(long maxCacheBytes) {
+        return new QrCodeService(shortUrlRepository, renderPool, maxCacheBytes, 256, 1024, 100);
+    }
+
+    private static QrCodeImage render(QrCodeService service, QrCodeService.Key key) throws Exception {
+        return service.render(key, "http://localhost:8080/" + key.shortCode()).get(5, TimeUnit.SECONDS);
+    }
+
+    private static void assertStatus(HttpStatus status, Runnable call) {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, call::run);
+        assertEquals(status, e.getStatusCode());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.minimizeurlspringboot.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.minimizeurlspringboot.models.ShortUrl;
+import com.example.minimizeurlspringboot.repository.ShortUrlRepository;
+import com.example.minimizeurlspringboot.repository.UrlPrefixRepository;
+
+class ShortUrlServiceTest {
+
+    private final ShortUrlRepository shortUrlRepository = mock(ShortUrlRepository.class);
+
+    private final ShortUrlService shortUrlService = new ShortUrlService(
+            shortUrlRepository, new UrlStorageCodec(mock(UrlPrefixRepository.class), false, 100));
+
+    @Test
+    void rejectsMissingOrBlankUrlsWithoutSaving() {
+        for (String url : new String[] { null, "", "   " }) {
+            ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                    () -> shortUrlService.createShortUrl(url));
+            assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        }
+
+        verify(shortUrlRepository, never()).save(any(ShortUrl.class));
+    }
+}
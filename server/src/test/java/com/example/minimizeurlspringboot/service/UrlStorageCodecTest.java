@@ -0,0 +1,164 @@
+package com.example.minimizeurlspringboot.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.minimizeurlspringboot.models.ShortUrl;
+import com.example.minimizeurlspringboot.models.UrlPrefix;
+import com.example.minimizeurlspringboot.repository.UrlPrefixRepository;
+
+class UrlStorageCodecTest {
+
+    private UrlPrefixRepository urlPrefixRepository;
+
+    @BeforeEach
+    void setUp() {
+        urlPrefixRepository = InMemoryUrlPrefixRepository.create(new HashMap<>());
+    }
+
+    @Test
+    void prefixIsSchemeAndAuthority() {
+        assertPrefix("https://example.com", "https://example.com");
+        assertPrefix("https://example.com/", "https://example.com");
+        assertPrefix("https://www.shop.com/products/2024/10/some-long-slug-123456/?utm_source=x",
+                "https://www.shop.com");
+        assertPrefix("https://user@example.com:8443/a/b", "https://user@example.com:8443");
+    }
+
+    @Test
+    void prefixStopsAtQueryOrFragmentBeforeThePath() {
+        assertPrefix("https://example.com?next=/a/b", "https://example.com");
+        assertPrefix("https://example.com#/route/x", "https://example.com");
+    }
+
+    @Test
+    void urlsWithoutSchemeHaveAnEmptyPrefix() {
+        assertPrefix("example.com/a/b", "");
+        assertPrefix("foo", "");
+        assertPrefix("/relative?to=https://example.com/x", "");
+        assertPrefix("page?next=https://example.com/x", "");
+    }
+
+    @Test
+    void compactRoundTripsEdgeCases() {
+        UrlStorageCodec codec = new UrlStorageCodec(urlPrefixRepository, true, 100);
+        String[] urls = {
+                "https://example.com",
+                "https://example.com/",
+                "https://example.com?x=1",
+                "https://example.com#frag/with/slashes",
+                "https://www.shop.com/products/2024/10/some-long-slug-123456/"
+                        + "?utm_source=newsletter&utm_medium=email&utm_campaign=fall2026&fbclid=IwAR3xYz",
+                "https://ex.com/été/über?q=ñandú&emoji=😀",
+                "https://例え.jp/テスト",
+                "foo"
+        };
+
+        for (String url : urls) {
+            ShortUrl encoded = encode(codec, url);
+            assertNull(encoded.getStoredUrl());
+
+            ShortUrl loaded = ShortUrl.builder()
+                    .urlPrefixId(encoded.getUrlPrefixId())
+                    .urlSuffix(encoded.getUrlSuffix())
+                    .build();
+            assertEquals(url, codec.decode(loaded));
+        }
+    }
+
+    @Test
+    void plainStorageKeepsTheFullUrl() {
+        UrlStorageCodec codec = new UrlStorageCodec(urlPrefixRepository, false, 100);
+        String url = "https://example.com/a?b=c";
+
+        ShortUrl encoded = encode(codec, url);
+
+        assertEquals(url, encoded.getStoredUrl());
+        assertNull(encoded.getUrlPrefixId());
+        assertNull(encoded.getUrlSuffix());
+        assertEquals(url, codec.decode(ShortUrl.builder().storedUrl(url).build()));
+    }
+
+    @Test
+    void rejectsMissingUrls() {
+        for (boolean compact : new boolean[] { false, true }) {
+            UrlStorageCodec codec = new UrlStorageCodec(urlPrefixRepository, compact, 100);
+
+            assertThrows(IllegalArgumentException.class, () -> encode(codec, null));
+            assertThrows(IllegalArgumentException.class, () -> encode(codec, "  "));
+        }
+    }
+
+    @Test
+    void decodingARowWithNoStoredUrlFailsClearly() {
+        UrlStorageCodec codec = new UrlStorageCodec(urlPrefixRepository, true, 100);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> codec.decode(ShortUrl.builder().shortCode("abc12345").build()));
+        assertEquals("Short URL abc12345 has no stored URL", e.getMessage());
+        verify(urlPrefixRepository, never()).findById(any());
+    }
+
+    @Test
+    void shortSuffixIsStoredRawAndLongSuffixIsDeflated() {
+        UrlStorageCodec codec = new UrlStorageCodec(urlPrefixRepository, true, 100);
+
+        byte[] shortSuffix = encode(codec, "https://example.com/ab").getUrlSuffix();
+        assertEquals(0, shortSuffix[0]);
+        assertEquals("/ab", new String(shortSuffix, 1, shortSuffix.length - 1, StandardCharsets.UTF_8));
+
+        String query = "/news/2026/10/article?utm_source=newsletter&utm_medium=email"
+                + "&utm_campaign=weekly&utm_content=header&fbclid=abc";
+        byte[] longSuffix = encode(codec, "https://example.com" + query).getUrlSuffix();
+        assertEquals(1, longSuffix[0]);
+        assertTrue(longSuffix.length < query.length());
+    }
+
+    @Test
+    void urlsOnTheSameHostShareOnePrefixRow() {
+        UrlStorageCodec codec = new UrlStorageCodec(urlPrefixRepository, true, 100);
+
+        ShortUrl first = encode(codec, "https://example.com/a/1");
+        ShortUrl second = encode(codec, "https://example.com/b/2?x=y");
+
+        assertEquals(first.getUrlPrefixId(), second.getUrlPrefixId());
+        verify(urlPrefixRepository, times(1)).save(any(UrlPrefix.class));
+    }
+
+    @Test
+    void evictedPrefixesAreReloadedById() {
+        UrlStorageCodec codec = new UrlStorageCodec(urlPrefixRepository, true, 1);
+
+        ShortUrl first = encode(codec, "https://one.example/a");
+        encode(codec, "https://two.example/b");
+
+        ShortUrl loaded = ShortUrl.builder()
+                .urlPrefixId(first.getUrlPrefixId())
+                .urlSuffix(first.getUrlSuffix())
+                .build();
+        assertEquals("https://one.example/a", codec.decode(loaded));
+        verify(urlPrefixRepository).findById(first.getUrlPrefixId());
+    }
+
+    private static ShortUrl encode(UrlStorageCodec codec, String url) {
+        ShortUrl shortUrl = new ShortUrl();
+        codec.encode(shortUrl, url);
+        return shortUrl;
+    }
+
+    private static void assertPrefix(String url, String prefix) {
+        assertEquals(prefix, url.substring(0, UrlStorageCodec.prefixLength(url)), url);
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.minimizeurlspringboot.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.minimizeurlspringboot.models.ShortUrl;
+import com.example.minimizeurlspringboot.models.UrlPrefix;
+
+// Purpose: Reproducible plain vs compact storage comparison on a synthetic but realistic URL mix.
+// Excluded from the default build; run with ./mvnw test -Pbenchmark [-Dstorage.rows=N, default 50000].
+
+@Tag("benchmark")
+class UrlStorageSizeTest {
+
+    private static final String[] POPULAR_HOSTS = {
+            "https://www.youtube.com", "https://www.amazon.com", "https://www.nytimes.com",
+            "https://medium.com", "https://docs.google.com", "https://github.com",
+            "https://www.instagram.com", "https://twitter.com", "https://www.linkedin.com",
+            "https://www.reddit.com", "https://www.bbc.co.uk", "https://en.wikipedia.org"
+    };
+
+    private static final String[] WORDS = {
+            "best", "guide", "how", "to", "the", "new", "sale", "review", "autumn", "city", "report",
+            "update", "design", "travel", "recipe", "market", "launch", "tips", "week", "spring", "top"
+    };
+
+    private static final String[] SOURCES = { "newsletter", "facebook", "google", "twitter", "linkedin" };
+    private static final String[] MEDIUMS = { "email", "social", "cpc" };
+
+    private static final String TOKEN_CHARS =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void compactStorageIsSmallerThanPlain() throws SQLException, java.io.IOException {
+        int rows = Integer.getInteger("storage.rows", 50_000);
+        List<String> urls = generateUrls(rows, new Random(42));
+
+        Map<Long, UrlPrefix> prefixRows = new LinkedHashMap<>();
+        UrlStorageCodec codec = new UrlStorageCodec(InMemoryUrlPrefixRepository.create(prefixRows), true, 10_000);
+
+        List<ShortUrl> encoded = new ArrayList<>(rows);
+        for (String url : urls) {
+            ShortUrl shortUrl = new ShortUrl();
+            codec.encode(shortUrl, url);
+            encoded.add(shortUrl);
+        }
+
+        long plainPayload = 0;
+        long compactPayload = 0;
+        long plainHeap = 0;
+        long compactHeap = 0;
+        for (int i = 0; i < rows; i++) {
+            int urlBytes = urls.get(i).getBytes(StandardCharsets.UTF_8).length;
+            int suffixBytes = encoded.get(i).getUrlSuffix().length;
+
+            plainPayload += urlBytes;
+            compactPayload += Long.BYTES + suffixBytes;
+
+            // Loaded entity: plain holds the URL String; compact holds the suffix array and boxed prefix
+            // id, since the URL is decoded on demand and prefixes are shared through the codec's cache
+            plainHeap += stringHeap(urls.get(i));
+            compactHeap += align(16 + suffixBytes) + 16;
+        }
+        long prefixBytes = prefixRows.values().stream()
+                .mapToLong(row -> Long.BYTES + row.getPrefix().getBytes(StandardCharsets.UTF_8).length)
+                .sum();
+
+        long plainFile = writePlain(urls);
+        long compactFile = writeCompact(encoded, prefixRows);
+
+        System.out.printf("rows=%d distinct prefixes=%d%n", rows, prefixRows.size());
+        System.out.printf("H2 file bytes:        plain=%d compact=%d (%.1f%%)%n",
+                plainFile, compactFile, 100.0 * compactFile / plainFile);
+        System.out.printf("URL bytes per row:    plain=%.1f compact=%.1f (incl. prefix table)%n",
+                (double) plainPayload / rows, (double) (compactPayload + prefixBytes) / rows);
+        System.out.printf("heap per loaded row:  plain=%.1f compact=%.1f (URL fields only)%n",
+                (double) plainHeap / rows, (double) compactHeap / rows);
+
+        assertEquals(rows, encoded.size());
+        assertTrue(compactPayload + prefixBytes < plainPayload);
+        assertTrue(compactFile < plainFile);
+    }
+
+    private long writePlain(List<String> urls) throws SQLException, java.io.IOException {
+        Path file = tempDir.resolve("plain");
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:file:" + file, "sa", "")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE short_urls (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                        + "short_code VARCHAR(255) NOT NULL UNIQUE, original_url VARCHAR(2048))");
+            }
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO short_urls (short_code, original_url) VALUES (?, ?)")) {
+                for (int i = 0; i < urls.size(); i++) {
+                    insert.setString(1, shortCode(i));
+                    insert.setString(2, urls.get(i));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            shutdownCompact(connection);
+        }
+        return Files.size(tempDir.resolve("plain.mv.db"));
+    }
+
+    private long writeCompact(List<ShortUrl> encoded, Map<Long, UrlPrefix> prefixRows)
+            throws SQLException, java.io.IOException {
+        Path file = tempDir.resolve("compact");
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:file:" + file, "sa", "")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE url_prefixes (id BIGINT PRIMARY KEY, "
+                        + "prefix VARCHAR(2048) NOT NULL UNIQUE)");
+                statement.execute("CREATE TABLE short_urls (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                        + "short_code VARCHAR(255) NOT NULL UNIQUE, url_prefix_id BIGINT, url_suffix VARBINARY(8192))");
+            }
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO url_prefixes (id, prefix) VALUES (?, ?)")) {
+                for (UrlPrefix row : prefixRows.values()) {
+                    insert.setLong(1, row.getId());
+                    insert.setString(2, row.getPrefix());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO short_urls (short_code, url_prefix_id, url_suffix) VALUES (?, ?, ?)")) {
+                for (int i = 0; i < encoded.size(); i++) {
+                    insert.setString(1, shortCode(i));
+                    insert.setLong(2, encoded.get(i).getUrlPrefixId());
+                    insert.setBytes(3, encoded.get(i).getUrlSuffix());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            shutdownCompact(connection);
+        }
+        return Files.size(tempDir.resolve("compact.mv.db"));
+    }
+
+    private static void shutdownCompact(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN COMPACT");
+        }
+    }
+
+    // Popular hosts for most links, a long tail of small sites, and tracking parameters on about half
+    private static List<String> generateUrls(int count, Random random) {
+        List<String> urls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder url = new StringBuilder();
+            int kind = random.nextInt(10);
+            if (kind < 7) {
+                String host = POPULAR_HOSTS[random.nextInt(POPULAR_HOSTS.length)];
+                url.append(host);
+                switch (host) {
+                    case "https://www.youtube.com" -> url.append("/watch?v=").append(token(random, 11));
+                    case "https://www.amazon.com" -> url.append('/').append(slug(random))
+                            .append("/dp/B0").append(token(random, 8).toUpperCase())
+                            .append("?ref=sr_1_").append(random.nextInt(40));
+                    case "https://docs.google.com" -> url.append("/document/d/").append(token(random, 44))
+                            .append("/edit");
+                    case "https://www.nytimes.com", "https://www.bbc.co.uk" -> url.append("/2026/")
+                            .append(1 + random.nextInt(12)).append('/').append(1 + random.nextInt(28))
+                            .append("/world/").append(slug(random)).append(".html");
+                    default -> url.append('/').append(WORDS[random.nextInt(WORDS.length)]).append('/')
+                            .append(slug(random)).append('-').append(token(random, 12));
+                }
+            } else {
+                url.append("https://www.shop").append(random.nextInt(2_000)).append(".com/products/")
+                        .append(WORDS[random.nextInt(WORDS.length)]).append('/').append(slug(random))
+                        .append('-').append(100_000 + random.nextInt(900_000)).append('/');
+            }
+
+            if (random.nextBoolean()) {
+                url.append(url.indexOf("?") < 0 ? '?' : '&')
+                        .append("utm_source=").append(SOURCES[random.nextInt(SOURCES.length)])
+                        .append("&utm_medium=").append(MEDIUMS[random.nextInt(MEDIUMS.length)])
+                        .append("&utm_campaign=").append(WORDS[random.nextInt(WORDS.length)]).append("_2026");
+                if (random.nextInt(3) == 0) {
+                    url.append("&fbclid=IwAR").append(token(random, 56));
+                }
+            }
+            urls.add(url.toString());
+        }
+        return urls;
+    }
+
+    private static String slug(Random random) {
+        int words = 3 + random.nextInt(6);
+        StringBuilder slug = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                slug.append('-');
+            }
+            slug.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return slug.toString();
+    }
+
+    private static String token(Random random, int length) {
+        StringBuilder token = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            token.append(TOKEN_CHARS.charAt(random.nextInt(TOKEN_CHARS.length())));
+        }
+        return token.toString();
+    }
+
+    private static String shortCode(int i) {
+        return String.format("%08x", i);
+    }
+
+    // Latin-1 compact String: 24-byte header plus a byte[] of 16 + length, each 8-byte aligned
+    private static long stringHeap(String value) {
+        return 24 + align(16 + value.length());
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}